@@ -0,0 +1,15 @@
+-- Startup benchmark data (bench/startup.sh): 20 active classrooms BENCHA..BENCHT, 40 questions and 250 students each.
+-- Load into an empty database after one app start with --spring.jpa.hibernate.ddl-auto=create has created the schema.
+INSERT INTO teachers (email, password_hash, full_name) VALUES ('t@bench', 'x', 'Bench Teacher');
+INSERT INTO questions (category, difficulty_level, content, options, correct_option_key)
+SELECT 'Cat' || (g % 10), 1 + g % 5, 'Question ' || g || ': what is ' || g || ' + ' || g || '?',
+       jsonb_build_array(jsonb_build_object('key','A','text',(2*g)::text), jsonb_build_object('key','B','text',(2*g+1)::text),
+                         jsonb_build_object('key','C','text',(2*g-1)::text), jsonb_build_object('key','D','text',(g)::text)), 'A'
+FROM generate_series(1, 400) g;
+INSERT INTO students (email, full_name) SELECT 's' || g || '@bench', 'Student ' || g FROM generate_series(1, 5000) g;
+INSERT INTO classrooms (title, access_code, duration_minutes, is_active, teacher_id, booklet_count)
+SELECT 'Bench ' || g, 'BENCH' || chr(64 + g), 60, true, (SELECT id FROM teachers LIMIT 1), 0 FROM generate_series(1, 20) g;
+INSERT INTO classroom_questions (classroom_id, question_id)
+SELECT c.id, q.id FROM classrooms c JOIN questions q ON q.id % 10 = c.id % 10;
+INSERT INTO classroom_students (classroom_id, student_id)
+SELECT c.id, s.id FROM classrooms c JOIN students s ON s.id % 20 = c.id % 20;
@@ -0,0 +1,85 @@
+#!/usr/bin/env bash
+# Time-to-ready and first-request latency: plain jar vs. the fast-startup profile (AOT + class cache), with and
+# without exam pre-warming. Run from anywhere; needs curl and a PostgreSQL loaded with bench/seed.sql.
+#
+#   CACHE_MODE=aot     JDK 25+ AOT cache (-XX:AOTCacheOutput / -XX:AOTCache), the workflow documented in pom.xml
+#   CACHE_MODE=appcds  JDK 21 AppCDS (-XX:ArchiveClassesAtExit / -XX:SharedArchiveFile), a stand-in for older JDKs
+#
+# usage: [JAVA=...] [CACHE_MODE=aot|appcds] [MVN=mvn] [MVN_ARGS=...] bench/startup.sh [runs]
+# Every run starts exams for students not used before, so reload bench/seed.sql before running the script again.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-3}
+JAVA=${JAVA:-java}
+CACHE_MODE=${CACHE_MODE:-aot}
+MVN=${MVN:-./mvnw}
+MVN_ARGS=${MVN_ARGS:-}
+PORT=8080
+WORK=target/startup-bench
+JAR=turan_math-0.0.1-SNAPSHOT.jar
+
+# The benchmark calls /api/exam/start without a token
+EXCLUDE=org.springframework.boot.security.autoconfigure.SecurityAutoConfiguration,\
+org.springframework.boot.security.autoconfigure.UserDetailsServiceAutoConfiguration,\
+org.springframework.boot.security.autoconfigure.web.servlet.ServletWebSecurityAutoConfiguration,\
+org.springframework.boot.security.autoconfigure.web.servlet.SecurityFilterAutoConfiguration,\
+org.springframework.boot.security.autoconfigure.actuate.web.servlet.ManagementWebSecurityAutoConfiguration
+
+case "$CACHE_MODE" in
+    aot)    TRAIN_FLAG=-XX:AOTCacheOutput=app.aot;      CACHE_FLAG=-XX:AOTCache=app.aot ;;
+    appcds) TRAIN_FLAG=-XX:ArchiveClassesAtExit=app.jsa; CACHE_FLAG=-XX:SharedArchiveFile=app.jsa ;;
+    *)      echo "CACHE_MODE must be aot or appcds" >&2; exit 1 ;;
+esac
+
+rm -rf "$WORK" && mkdir -p "$WORK/plain" "$WORK/fast"
+
+# 1. Plain jar, and the fast-startup jar extracted (AOT is processed with the same exclusions the runs use)
+"$MVN" -B -q package -DskipTests $MVN_ARGS
+cp "target/$JAR" "$WORK/plain/"
+"$MVN" -B -q package -DskipTests -Pfast-startup $MVN_ARGS "-Dspring-boot.aot.jvmArguments=-Dspring.autoconfigure.exclude=$EXCLUDE" \
+    > "$WORK/aot-build.log" || { cat "$WORK/aot-build.log" >&2; exit 1; }
+"$JAVA" -Djarmode=tools -jar "target/$JAR" extract --destination "$WORK/fast" > /dev/null
+
+# 2. Training run: exits after context refresh and writes the class cache
+(cd "$WORK/fast" && "$JAVA" $TRAIN_FLAG -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+    -jar "$JAR" --spring.autoconfigure.exclude="$EXCLUDE" > training.log 2>&1)
+
+# 3. Measured runs; students of classroom BENCHA (id 1) are ids 1, 21, 41, ...
+student=1
+measure() { # <label> <dir> <java args...>
+    local label=$1 dir=$2; shift 2
+    local start pid ready first second
+    start=$(date +%s%N)
+    (cd "$dir" && exec "$JAVA" "$@" --spring.autoconfigure.exclude="$EXCLUDE" > "$label.log" 2>&1) &
+    pid=$!
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "localhost:$PORT/actuator/health/readiness")" = 200 ]; do
+        kill -0 "$pid" 2> /dev/null || { echo "$label: app exited, see $dir/$label.log" >&2; exit 1; }
+        sleep 0.01
+    done
+    ready=$(( ($(date +%s%N) - start) / 1000000 ))
+    first=$(start_exam $student); second=$(start_exam $((student + 20)))
+    student=$((student + 40))
+    kill "$pid"; wait "$pid" 2> /dev/null || true
+    echo "$label ready_ms=$ready first=$first second=$second"
+}
+start_exam() { # prints "<status> <seconds>"
+    curl -s -o /dev/null -w '%{http_code} %{time_total}' -H 'Content-Type: application/json' \
+        -d "{\"accessCode\":\"BENCHA\",\"email\":\"s$1@bench\"}" "localhost:$PORT/api/exam/start"
+}
+
+for run in $(seq "$RUNS"); do
+    measure plain-noprewarm "$WORK/plain" -jar "$JAR" --turan.startup.prewarm-exams=false
+    measure plain-prewarm "$WORK/plain" -jar "$JAR"
+    measure fast-prewarm "$WORK/fast" $CACHE_FLAG -Dspring.aot.enabled=true -jar "$JAR"
+    measure fast-noprewarm "$WORK/fast" $CACHE_FLAG -Dspring.aot.enabled=true -jar "$JAR" --turan.startup.prewarm-exams=false
+done | tee "$WORK/results.txt"
+
+# Medians per configuration
+median() { # <label> <field>
+    grep "^$1 " "$WORK/results.txt" | awk -v f="$2" '{sub(/.*=/, "", $f); print $f}' | sort -n |
+        awk '{v[NR] = $1} END {print v[int((NR + 1) / 2)]}'
+}
+for label in plain-noprewarm plain-prewarm fast-prewarm fast-noprewarm; do
+    echo "median $label: ready $(median $label 2) ms, first $(median $label 4) s, second $(median $label 6) s"
+done
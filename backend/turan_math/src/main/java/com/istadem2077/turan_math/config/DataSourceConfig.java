@@ -0,0 +1,97 @@
+package com.istadem2077.turan_math.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.JdbcSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.*;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Workload-isolated connection pools. The student pool only serves exam start/submit, the teacher pool
+ * serves everything else, and an optional replica pool takes @WorkloadPool(readOnly = true) reporting work.
+ * Each pool is configured under turan.datasource.{student,teacher,replica}.* and reports its own Hikari metrics.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("turan.datasource.student")
+    public HikariDataSource studentDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("turan.datasource.teacher")
+    public HikariDataSource teacherDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "turan.datasource.replica.jdbc-url")
+    @ConfigurationProperties("turan.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        return DataSourceBuilder.create().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public WorkloadRoutingDataSource dataSource(
+            @Qualifier("studentDataSource") DataSource studentDataSource,
+            @Qualifier("teacherDataSource") DataSource teacherDataSource,
+            @Qualifier("replicaDataSource") ObjectProvider<DataSource> replicaDataSource) {
+
+        return routingDataSource(studentDataSource, teacherDataSource, replicaDataSource.getIfAvailable());
+    }
+
+    static WorkloadRoutingDataSource routingDataSource(DataSource studentDataSource, DataSource teacherDataSource,
+                                                       DataSource replica) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(Workload.STUDENT, studentDataSource);
+        targets.put(Workload.TEACHER, teacherDataSource);
+        if (replica != null) {
+            targets.put(WorkloadRoutingDataSource.REPLICA, replica);
+        }
+
+        WorkloadRoutingDataSource routingDataSource = new WorkloadRoutingDataSource(replica != null);
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(teacherDataSource);
+        return routingDataSource;
+    }
+
+    // Spring's Hibernate adapter holds a session's connection until the session closes. With open-in-view that is
+    // the end of the request, so every later transaction in the request would reuse the first pool. Release after
+    // each transaction so each one is routed on its own.
+    @Bean
+    public static HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(JdbcSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    // Infrastructure role so the same auto-proxy that applies @Transactional also picks this advisor up
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor workloadPoolAdvisor() {
+        ComposablePointcut pointcut = new ComposablePointcut(AnnotationMatchingPointcut.forClassAnnotation(WorkloadPool.class))
+                .union(AnnotationMatchingPointcut.forMethodAnnotation(WorkloadPool.class));
+
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, new WorkloadPoolInterceptor());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
@@ -0,0 +1,7 @@
+package com.istadem2077.turan_math.config;
+
+// Connection-pool bulkheads. Each workload gets its own Hikari pool so reporting load cannot starve exam traffic.
+public enum Workload {
+    STUDENT, // exam start / submit (bell-time hot path)
+    TEACHER  // classroom management, results, listings, analytics
+}
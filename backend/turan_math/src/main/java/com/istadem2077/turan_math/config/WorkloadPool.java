@@ -0,0 +1,17 @@
+package com.istadem2077.turan_math.config;
+
+import java.lang.annotation.*;
+
+/**
+ * Routes JDBC connections opened inside the annotated service (or method) to the pool of the given workload.
+ * Method-level annotations win over class-level ones. Unannotated code uses the TEACHER pool.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface WorkloadPool {
+    Workload value();
+
+    // Read-only work goes to the replica pool when turan.datasource.replica.* is configured
+    boolean readOnly() default false;
+}
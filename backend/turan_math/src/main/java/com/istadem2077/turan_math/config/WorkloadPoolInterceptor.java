@@ -0,0 +1,40 @@
+package com.istadem2077.turan_math.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+
+// Binds the workload route before @Transactional opens its connection (advisor runs with highest precedence)
+public class WorkloadPoolInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        WorkloadPool workloadPool = findWorkloadPool(invocation);
+        if (workloadPool == null) {
+            return invocation.proceed();
+        }
+
+        WorkloadPool previous = WorkloadRoutingDataSource.bind(workloadPool);
+        try {
+            return invocation.proceed();
+        } finally {
+            WorkloadRoutingDataSource.restore(previous);
+        }
+    }
+
+    private WorkloadPool findWorkloadPool(MethodInvocation invocation) {
+        Class<?> targetClass = invocation.getThis() != null
+                ? AopUtils.getTargetClass(invocation.getThis())
+                : invocation.getMethod().getDeclaringClass();
+        Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+
+        WorkloadPool workloadPool = AnnotatedElementUtils.findMergedAnnotation(method, WorkloadPool.class);
+        if (workloadPool == null) {
+            workloadPool = AnnotatedElementUtils.findMergedAnnotation(targetClass, WorkloadPool.class);
+        }
+        return workloadPool;
+    }
+}
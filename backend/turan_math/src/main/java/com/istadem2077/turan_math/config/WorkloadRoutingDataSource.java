@@ -0,0 +1,39 @@
+package com.istadem2077.turan_math.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+// Picks the target pool from the workload bound to the current thread by WorkloadPoolInterceptor
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+    static final String REPLICA = "REPLICA";
+
+    private static final ThreadLocal<WorkloadPool> CURRENT_WORKLOAD = new ThreadLocal<>();
+
+    private final boolean replicaAvailable;
+
+    public WorkloadRoutingDataSource(boolean replicaAvailable) {
+        this.replicaAvailable = replicaAvailable;
+    }
+
+    static WorkloadPool bind(WorkloadPool workloadPool) {
+        WorkloadPool previous = CURRENT_WORKLOAD.get();
+        CURRENT_WORKLOAD.set(workloadPool);
+        return previous;
+    }
+
+    static void restore(WorkloadPool previous) {
+        if (previous == null) {
+            CURRENT_WORKLOAD.remove();
+        } else {
+            CURRENT_WORKLOAD.set(previous);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        WorkloadPool workloadPool = CURRENT_WORKLOAD.get();
+        if (workloadPool == null) {
+            return null; // default target (teacher pool)
+        }
+        return workloadPool.readOnly() && replicaAvailable ? REPLICA : workloadPool.value();
+    }
+}
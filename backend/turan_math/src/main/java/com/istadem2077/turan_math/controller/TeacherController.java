@@ -4,6 +4,7 @@ import com.istadem2077.turan_math.dto.ClassroomDTOs.*;
 import com.istadem2077.turan_math.dto.ExamDTOs.*;
 import com.istadem2077.turan_math.entity.Classroom;
 import com.istadem2077.turan_math.service.ClassroomService;
+import com.istadem2077.turan_math.service.CollusionService;
 import com.istadem2077.turan_math.service.ExamService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -20,6 +21,7 @@ public class TeacherController {
 
     private final ClassroomService classroomService;
     private final ExamService examService;
+    private final CollusionService collusionService;
 
     @PostMapping("/{teacherId}/classroom")
     public ResponseEntity<ClassroomResponse> createClassroom(
@@ -50,6 +52,17 @@ public class TeacherController {
         return ResponseEntity.ok(results);
     }
 
+    @GetMapping("/{teacherId}/classroom/{classroomId}/suspicious-pairs")
+    public ResponseEntity<List<SuspiciousPairDTO>> getSuspiciousPairs(
+            @PathVariable Long teacherId,
+            @PathVariable Long classroomId,
+            @RequestParam(defaultValue = "3") int minIdenticalWrong,
+            @RequestParam(defaultValue = "50") int limit) {
+
+        List<SuspiciousPairDTO> pairs = collusionService.findSuspiciousPairs(classroomId, minIdenticalWrong, limit);
+        return ResponseEntity.ok(pairs);
+    }
+
     // Helper mapper to avoid recursion
     private ClassroomResponse mapToResponse(Classroom c) {
         return new ClassroomResponse(
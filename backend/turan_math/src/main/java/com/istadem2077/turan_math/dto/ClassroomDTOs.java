@@ -5,12 +5,12 @@ import java.util.Map;
 
 public class ClassroomDTOs {
 
-    // Request from Teacher to create a class
     // Request from Teacher to create a class
     public record CreateClassroomRequest(
             String title,
             int durationMinutes,
-            Map<String, Integer> categoryCounts // e.g., "Math": 10
+            Map<String, Integer> categoryCounts, // e.g., "Math": 10
+            Integer bookletCount // Optional: precompute K shuffled variants instead of shuffling per student
     ) {}
 
     // NEW: Response DTO to avoid Infinite Recursion (Teacher -> Classroom -> Teacher)
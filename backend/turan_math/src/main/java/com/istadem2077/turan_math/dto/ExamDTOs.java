@@ -61,4 +61,16 @@ public class ExamDTOs {
             String correctKey,
             boolean isCorrect
     ) {}
+
+    // RESPONSE: Pair of submissions whose answer patterns are suspiciously alike
+    public record SuspiciousPairDTO(
+            String firstStudentName,
+            String firstStudentEmail,
+            String secondStudentName,
+            String secondStudentEmail,
+            int identicalWrongAnswers, // same wrong option picked by both
+            double rarityScore, // sum of -ln(share of wrong answers picking that option) over those answers
+            int identicalAnswers,
+            int totalQuestions
+    ) {}
 }
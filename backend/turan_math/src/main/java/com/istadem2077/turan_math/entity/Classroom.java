@@ -49,4 +49,9 @@ public class Classroom {
             inverseJoinColumns = @JoinColumn(name = "student_id")
     )
     private Set<Student> registeredStudents;
+
+    // Number of precomputed variants in classroom_booklets; 0 means questions are shuffled per student at start time
+    @Builder.Default
+    @Column(nullable = false, name = "booklet_count")
+    private Integer bookletCount = 0;
 }
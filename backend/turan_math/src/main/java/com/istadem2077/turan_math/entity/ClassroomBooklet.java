@@ -0,0 +1,32 @@
+package com.istadem2077.turan_math.entity;
+
+import com.istadem2077.turan_math.model.json.BookletQuestion;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.util.List;
+
+// One precomputed exam variant. Kept out of Classroom so loading a classroom never parses the K x Q payload.
+@Entity
+@Table(name = "classroom_booklets", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"classroom_id", "variant"})
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class ClassroomBooklet {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "classroom_id", nullable = false)
+    private Classroom classroom;
+
+    @Column(nullable = false, name = "variant")
+    private Integer variant;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb", name = "questions", nullable = false)
+    private List<BookletQuestion> questions;
+}
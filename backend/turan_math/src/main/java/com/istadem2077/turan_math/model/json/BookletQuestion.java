@@ -0,0 +1,13 @@
+package com.istadem2077.turan_math.model.json;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+// Question as served in a booklet: options reordered and relabeled, canonicalKeys maps booklet key -> Question key
+public record BookletQuestion(
+        Long questionId,
+        String content,
+        List<QuestionOption> options,
+        Map<String, String> canonicalKeys
+) implements Serializable {}
@@ -0,0 +1,17 @@
+package com.istadem2077.turan_math.repository;
+
+import com.istadem2077.turan_math.entity.ClassroomBooklet;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ClassroomBookletRepository extends JpaRepository<ClassroomBooklet, Long> {
+    // Read-only: compiled once into BookletService's cache, no snapshot / dirty check of the jsonb payload
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<ClassroomBooklet> findByClassroomIdOrderByVariant(Long classroomId);
+}
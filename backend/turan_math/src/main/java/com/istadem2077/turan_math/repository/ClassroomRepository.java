@@ -19,5 +19,26 @@ public interface ClassroomRepository extends JpaRepository<Classroom, Long> {
 
     boolean existsByAccessCode(String accessCode);
 
+    // Lightweight lookups for AccessCodeService (no entity hydration)
+    @Query("SELECT c.id FROM Classroom c WHERE c.accessCode = :accessCode")
+    Optional<Long> findIdByAccessCode(@Param("accessCode") String accessCode);
+
+    // Rows: [id, accessCode]
+    @Query("SELECT c.id, c.accessCode FROM Classroom c WHERE c.id > :afterId")
+    List<Object[]> findAccessCodesAfter(@Param("afterId") Long afterId);
+
     List<Classroom> findByTeacherId(Long teacherId);
+
+    // Startup warm-up: questions and rosters fetched separately to avoid a questions x students cartesian product
+    @Query("SELECT DISTINCT c FROM Classroom c LEFT JOIN FETCH c.questions WHERE c.isActive = true")
+    List<Classroom> findActiveWithQuestions();
+
+    // Rows [classroomId, studentId]
+    @Query("SELECT c.id, s.id FROM Classroom c JOIN c.registeredStudents s WHERE c.isActive = true")
+    List<Object[]> findActiveRosterRows();
+
+    @Query("SELECT s.id FROM Classroom c JOIN c.registeredStudents s WHERE c.id = :classroomId")
+    List<Long> findRegisteredStudentIds(@Param("classroomId") Long classroomId);
+
+    boolean existsByIdAndRegisteredStudentsId(Long classroomId, Long studentId);
 }
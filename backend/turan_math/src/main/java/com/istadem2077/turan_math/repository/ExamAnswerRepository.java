@@ -1,7 +1,10 @@
 package com.istadem2077.turan_math.repository;
 
 import com.istadem2077.turan_math.entity.ExamAnswer;
+import com.istadem2077.turan_math.entity.ExamSubmission;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,4 +12,10 @@ import java.util.List;
 @Repository
 public interface ExamAnswerRepository extends JpaRepository<ExamAnswer, Long> {
     List<ExamAnswer> findBySubmissionId(Long id);
+
+    // Flat rows [submissionId, questionId, selectedOptionKey, isCorrect] - avoids hydrating entities for analytics
+    @Query("SELECT a.submission.id, a.question.id, a.selectedOptionKey, a.isCorrect FROM ExamAnswer a " +
+           "WHERE a.submission.classroom.id = :classroomId AND a.submission.status = :status")
+    List<Object[]> findAnswerRowsByClassroomIdAndStatus(@Param("classroomId") Long classroomId,
+                                                        @Param("status") ExamSubmission.SubmissionStatus status);
 }
@@ -2,8 +2,11 @@ package com.istadem2077.turan_math.repository;
 
 import com.istadem2077.turan_math.entity.ExamSubmission;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +15,8 @@ public interface ExamSubmissionRepository extends JpaRepository<ExamSubmission,
     Optional<ExamSubmission> findByClassroomIdAndStudentId(Long classroomId, Long studentId);
 
     List<ExamSubmission> findByClassroomId(Long classroomId);
+
+    // One query for the submissions and their students (CollusionService reads a name and email per pair)
+    @Query("SELECT s FROM ExamSubmission s JOIN FETCH s.student WHERE s.id IN :ids")
+    List<ExamSubmission> findAllWithStudentByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,228 @@
+package com.istadem2077.turan_math.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.istadem2077.turan_math.repository.ClassroomRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Access-code allocation and lookup.
+ * Allocation: 6 chars from a 31-symbol alphabet (~887M codes), checked against a Bloom filter + sorted set of
+ * known codes, handed out from a pre-reserved batch. One cheap exists query per code covers codes created on
+ * other nodes.
+ * Lookup: the same Bloom filter answers "no such code" without a per-code query. It is loaded at startup, and a
+ * "no" only counts once a refresh that started after the lookup arrived has added codes created since (on any
+ * node). Concurrent misses share one incremental scan; a lookup that cannot get one in time goes to the caches/DB.
+ * Hits are cached per code; the few misses that get past the filter are cached separately for a short TTL, so
+ * guessing cannot evict real codes.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccessCodeService {
+    // No 0/O, 1/I/L: unambiguous when read aloud or copied from a board
+    private static final char[] ALPHABET = "ABCDEFGHJKMNPQRSTUVWXYZ23456789".toCharArray();
+    private static final int CODE_LENGTH = 6;
+    private static final int RESERVATION_BATCH = 32;
+
+    private static final long REFRESH_WAIT_MILLIS = 50; // longer than an incremental scan, shorter than a user notices
+    static final long KNOWN_CODES_ID_OVERLAP = 100; // re-read recent IDs: IDENTITY values can commit out of order
+
+    private static final int LOOKUP_CACHE_SIZE = 10_000;
+    private static final int UNKNOWN_CACHE_SIZE = 10_000;
+    private static final Duration UNKNOWN_TTL = Duration.ofSeconds(30);
+
+    private final ClassroomRepository classroomRepository;
+
+    private final SecureRandom random = new SecureRandom();
+    private final BloomFilter knownCodeFilter = new BloomFilter(1 << 23, 7); // 1 MiB, ~1% false positives at 870k codes
+
+    // Guarded by knownCodesLock
+    private final ReentrantLock knownCodesLock = new ReentrantLock();
+    private final NavigableSet<String> knownCodes = new TreeSet<>();
+    private final Deque<String> reservedCodes = new ArrayDeque<>();
+    private long scannedThroughId = 0;
+
+    private volatile boolean knownCodesLoaded = false;
+    private volatile long knownCodesRefreshedAt; // System.nanoTime at the start of the last completed refresh
+
+    private final Cache<String, Long> classroomIds = Caffeine.newBuilder()
+            .maximumSize(LOOKUP_CACHE_SIZE)
+            .build();
+
+    private final Cache<String, Boolean> unknownCodes = Caffeine.newBuilder()
+            .maximumSize(UNKNOWN_CACHE_SIZE)
+            .expireAfterWrite(UNKNOWN_TTL)
+            .build();
+
+    public String allocate() {
+        knownCodesLock.lock();
+        try {
+            if (!knownCodesLoaded) {
+                refreshKnownCodesLocked();
+            }
+
+            String code;
+            do {
+                if (reservedCodes.isEmpty()) {
+                    reserveBatch();
+                }
+                code = reservedCodes.poll();
+            } while (classroomRepository.existsByAccessCode(code));
+
+            // A guess at this code may have been cached as unknown
+            unknownCodes.invalidate(code);
+            classroomIds.invalidate(code);
+            return code;
+        } finally {
+            knownCodesLock.unlock();
+        }
+    }
+
+    public Optional<Long> resolveClassroomId(String accessCode) {
+        if (accessCode == null) return Optional.empty();
+
+        String code = accessCode.trim().toUpperCase();
+        if (code.length() != CODE_LENGTH || !code.chars().allMatch(Character::isLetterOrDigit)) {
+            return Optional.empty(); // malformed: never worth a query
+        }
+
+        long arrivedAt = System.nanoTime();
+        Long cached = classroomIds.getIfPresent(code);
+        if (cached != null) return Optional.of(cached);
+
+        // Bloom "no" is definitive only after a refresh that covers codes committed before this lookup arrived
+        if (!knownCodeFilter.mightContain(code)
+                && refreshKnownCodesSince(arrivedAt)
+                && !knownCodeFilter.mightContain(code)) {
+            return Optional.empty();
+        }
+
+        if (unknownCodes.getIfPresent(code) != null) return Optional.empty();
+
+        Optional<Long> classroomId = classroomRepository.findIdByAccessCode(code);
+        classroomId.ifPresentOrElse(id -> classroomIds.put(code, id), () -> unknownCodes.put(code, Boolean.TRUE));
+        return classroomId;
+    }
+
+    // Full load on first call, then only codes created since; called at startup so the first lookups are cheap
+    public void refreshKnownCodes() {
+        knownCodesLock.lock();
+        try {
+            refreshKnownCodesLocked();
+        } finally {
+            knownCodesLock.unlock();
+        }
+    }
+
+    // True once a refresh started after `since` has completed; false if the lock was not free in time
+    private boolean refreshKnownCodesSince(long since) {
+        try {
+            if (!knownCodesLock.tryLock(REFRESH_WAIT_MILLIS, TimeUnit.MILLISECONDS)) return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        try {
+            // Misses queued behind a refresh that started after them are already covered by it
+            if (!knownCodesLoaded || knownCodesRefreshedAt - since <= 0) {
+                refreshKnownCodesLocked();
+            }
+            return true;
+        } finally {
+            knownCodesLock.unlock();
+        }
+    }
+
+    private void refreshKnownCodesLocked() {
+        long startedAt = System.nanoTime();
+        long afterId = Math.max(0, scannedThroughId - KNOWN_CODES_ID_OVERLAP);
+        for (Object[] row : classroomRepository.findAccessCodesAfter(afterId)) {
+            String code = (String) row[1];
+            markKnown(code);
+            unknownCodes.invalidate(code);
+            scannedThroughId = Math.max(scannedThroughId, (Long) row[0]);
+        }
+        knownCodesRefreshedAt = startedAt;
+        knownCodesLoaded = true;
+    }
+
+    private void reserveBatch() {
+        while (reservedCodes.size() < RESERVATION_BATCH) {
+            String candidate = randomCode();
+            // Bloom "no" is definitive; a "maybe" is settled by the sorted set
+            if (knownCodeFilter.mightContain(candidate) && knownCodes.contains(candidate)) continue;
+
+            markKnown(candidate);
+            reservedCodes.add(candidate);
+        }
+    }
+
+    private void markKnown(String code) {
+        knownCodeFilter.add(code);
+        knownCodes.add(code);
+    }
+
+    // Package-private so tests can script collisions
+    String randomCode() {
+        char[] code = new char[CODE_LENGTH];
+        for (int i = 0; i < CODE_LENGTH; i++) {
+            code[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+        }
+        return new String(code);
+    }
+
+    private static final class BloomFilter {
+        // Atomic so lookups see bits set by a concurrent refresh or allocation
+        private final AtomicLongArray bits;
+        private final int mask;
+        private final int hashes;
+
+        BloomFilter(int bitCount, int hashes) {
+            this.bits = new AtomicLongArray(bitCount / 64);
+            this.mask = bitCount - 1; // bitCount is a power of two
+            this.hashes = hashes;
+        }
+
+        void add(String value) {
+            long hash = hash64(value);
+            for (int i = 0; i < hashes; i++) {
+                int bit = bitIndex(hash, i);
+                bits.getAndAccumulate(bit >>> 6, 1L << bit, (word, b) -> word | b);
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash64(value);
+            for (int i = 0; i < hashes; i++) {
+                int bit = bitIndex(hash, i);
+                if ((bits.get(bit >>> 6) & (1L << bit)) == 0) return false;
+            }
+            return true;
+        }
+
+        // Double hashing (Kirsch-Mitzenmacher): h1 + i * h2
+        private int bitIndex(long hash, int i) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            return (h1 + i * h2) & mask;
+        }
+
+        private static long hash64(String value) {
+            long h = 0x9E3779B97F4A7C15L;
+            for (int i = 0; i < value.length(); i++) {
+                h = (h ^ value.charAt(i)) * 0xBF58476D1CE4E5B9L;
+            }
+            h ^= h >>> 31;
+            h *= 0x94D049BB133111EBL;
+            return h ^ (h >>> 29);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.istadem2077.turan_math.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.istadem2077.turan_math.dto.ExamDTOs.*;
+import com.istadem2077.turan_math.entity.*;
+import com.istadem2077.turan_math.model.json.*;
+import com.istadem2077.turan_math.repository.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Precomputed exam variants ("booklets"). Generated once at classroom creation, then each student is assigned a
+ * variant by hashing their ID, so startExam serves a stored payload instead of shuffling per request.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookletService {
+    public static final int MAX_BOOKLETS = 16;
+    private static final int MAX_CACHED_CLASSROOMS = 200; // each entry holds K x Q question DTOs
+
+    private final ClassroomBookletRepository bookletRepository;
+
+    private final Random random = new SecureRandom();
+
+    // classroomId -> compiled variants (payload DTOs + key tables), loaded from classroom_booklets only on a miss
+    private final Cache<Long, List<CompiledBooklet>> compiledBooklets = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_CLASSROOMS)
+            .expireAfterAccess(Duration.ofHours(3))
+            .build();
+
+    // Generates classroom.getBookletCount() variants of the given questions and stores them in classroom_booklets
+    public void createBooklets(Classroom classroom, List<Question> questions) {
+        int count = classroom.getBookletCount();
+        if (count < 1 || count > MAX_BOOKLETS) {
+            throw new RuntimeException("Booklet count must be between 1 and " + MAX_BOOKLETS);
+        }
+
+        List<ClassroomBooklet> booklets = new ArrayList<>();
+        for (int variant = 0; variant < count; variant++) {
+            List<Question> order = new ArrayList<>(questions);
+            Collections.shuffle(order, random);
+
+            List<BookletQuestion> bookletQuestions = order.stream()
+                    .map(this::shuffleOptions)
+                    .collect(Collectors.toList());
+            booklets.add(ClassroomBooklet.builder()
+                    .classroom(classroom)
+                    .variant(variant)
+                    .questions(bookletQuestions)
+                    .build());
+        }
+        bookletRepository.saveAll(booklets);
+    }
+
+    public boolean hasBooklets(Classroom classroom) {
+        return classroom.getBookletCount() != null && classroom.getBookletCount() > 0;
+    }
+
+    public List<QuestionDTO> payloadFor(Classroom classroom, Long studentId) {
+        return compiledFor(classroom, studentId).payload();
+    }
+
+    // Maps the key a student picked in their booklet back to the Question's own key (unknown keys pass through)
+    public String toCanonicalKey(Classroom classroom, Long studentId, Long questionId, String bookletKey) {
+        if (bookletKey == null) return null;
+
+        Map<String, String> keys = compiledFor(classroom, studentId).canonicalKeys().get(questionId);
+        if (keys == null) return bookletKey;
+        return keys.getOrDefault(bookletKey.trim().toUpperCase(), bookletKey);
+    }
+
+    public void preload(Classroom classroom) {
+        compiledFor(classroom, 0L);
+    }
+
+    public void evict(Long classroomId) {
+        compiledBooklets.invalidate(classroomId);
+    }
+
+    private CompiledBooklet compiledFor(Classroom classroom, Long studentId) {
+        List<CompiledBooklet> variants = compiledBooklets.get(classroom.getId(),
+                id -> bookletRepository.findByClassroomIdOrderByVariant(id).stream().map(this::compile).toList());
+        if (variants.isEmpty()) {
+            compiledBooklets.invalidate(classroom.getId());
+            throw new RuntimeException("Booklets missing for classroom: " + classroom.getId());
+        }
+
+        // Objects.hash keeps consecutive student IDs on different variants
+        return variants.get(Math.floorMod(Objects.hash(classroom.getId(), studentId), variants.size()));
+    }
+
+    private BookletQuestion shuffleOptions(Question question) {
+        List<QuestionOption> original = question.getOptions();
+        List<QuestionOption> shuffled = new ArrayList<>(original);
+        Collections.shuffle(shuffled, random);
+
+        // Labels keep their original positions (A, B, C...), only the option behind each label moves
+        List<QuestionOption> relabeled = new ArrayList<>();
+        Map<String, String> canonicalKeys = new LinkedHashMap<>();
+        for (int i = 0; i < shuffled.size(); i++) {
+            String label = original.get(i).key();
+            relabeled.add(new QuestionOption(label, shuffled.get(i).text()));
+            canonicalKeys.put(label.trim().toUpperCase(), shuffled.get(i).key());
+        }
+
+        return new BookletQuestion(question.getId(), question.getContent(), relabeled, canonicalKeys);
+    }
+
+    private CompiledBooklet compile(ClassroomBooklet booklet) {
+        List<QuestionDTO> payload = booklet.getQuestions().stream()
+                .map(q -> new QuestionDTO(q.questionId(), q.content(), List.<Object>copyOf(q.options())))
+                .toList();
+
+        Map<Long, Map<String, String>> canonicalKeys = booklet.getQuestions().stream()
+                .collect(Collectors.toUnmodifiableMap(BookletQuestion::questionId, BookletQuestion::canonicalKeys));
+
+        return new CompiledBooklet(payload, canonicalKeys);
+    }
+
+    private record CompiledBooklet(List<QuestionDTO> payload, Map<Long, Map<String, String>> canonicalKeys) {}
+}
@@ -1,5 +1,7 @@
 package com.istadem2077.turan_math.service;
 
+import com.istadem2077.turan_math.config.Workload;
+import com.istadem2077.turan_math.config.WorkloadPool;
 import com.istadem2077.turan_math.entity.*;
 import com.istadem2077.turan_math.repository.*;
 import com.istadem2077.turan_math.dto.ClassroomDTOs.*;
@@ -11,15 +13,23 @@ import java.util.*;
 
 @Service
 @RequiredArgsConstructor
+@WorkloadPool(Workload.TEACHER)
 public class ClassroomService {
     private final ClassroomRepository classroomRepository;
     private final QuestionRepository questionRepository;
     private final TeacherRepository teacherRepository;
+    private final BookletService bookletService;
+    private final AccessCodeService accessCodeService;
 
     // REMOVED internal record CreateClassroomRequest (Conflicted with DTO)
 
     @Transactional
     public Classroom createClassroom(Long teacherId, CreateClassroomRequest request) {
+        // Checked before any question lookup or access-code allocation; null or <= 0 means no booklets
+        if (request.bookletCount() != null && request.bookletCount() > BookletService.MAX_BOOKLETS) {
+            throw new RuntimeException("Booklet count must be at most " + BookletService.MAX_BOOKLETS);
+        }
+
         Teacher teacher = teacherRepository.findById(teacherId)
                 .orElseThrow(() -> new RuntimeException("Teacher not found"));
 
@@ -39,23 +49,22 @@ public class ClassroomService {
                 .teacher(teacher)
                 .title(request.title())
                 .durationMinutes(request.durationMinutes())
-                .accessCode(generateUniqueCode())
+                .accessCode(accessCodeService.allocate())
                 .isActive(true)
                 .questions(masterList)
                 .build();
 
-        return classroomRepository.save(classroom);
+        if (request.bookletCount() == null || request.bookletCount() <= 0) {
+            return classroomRepository.save(classroom);
+        }
+
+        classroom.setBookletCount(request.bookletCount());
+        Classroom saved = classroomRepository.save(classroom);
+        bookletService.createBooklets(saved, masterList);
+        return saved;
     }
 
     public List<Classroom> findClassroomsByTeacherId(Long teacherId) {
         return classroomRepository.findByTeacherId(teacherId);
     }
-
-    private String generateUniqueCode() {
-        String code;
-        do {
-            code = UUID.randomUUID().toString().substring(0, 6).toUpperCase();
-        } while (classroomRepository.findByAccessCode(code).isPresent());
-        return code;
-    }
 }
@@ -0,0 +1,237 @@
+package com.istadem2077.turan_math.service;
+
+import com.istadem2077.turan_math.config.Workload;
+import com.istadem2077.turan_math.config.WorkloadPool;
+import com.istadem2077.turan_math.dto.ExamDTOs.*;
+import com.istadem2077.turan_math.entity.*;
+import com.istadem2077.turan_math.model.json.QuestionOption;
+import com.istadem2077.turan_math.repository.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Flags pairs of completed submissions with alike answer patterns (mostly identical wrong answers).
+ * Each submission is packed into 4-bit option codes (16 questions per long) plus nibble-aligned
+ * "answered" and "wrong" masks, so a pair is compared with a few XOR/AND + popcount ops per 16 questions.
+ * Pairs are ranked by how unlikely their shared wrong answers are: each one scores -ln(p), p being the share of the
+ * question's wrong answers that picked that option. Weak students sharing the popular distractor score little per
+ * match, so they rank below a pair with a few rare identical mistakes.
+ */
+@Service
+@RequiredArgsConstructor
+@WorkloadPool(value = Workload.TEACHER, readOnly = true)
+public class CollusionService {
+    private static final int QUESTIONS_PER_WORD = 16;
+    private static final int MAX_OPTION_CODE = 15; // 0 = unanswered
+    private static final int CODES_PER_QUESTION = MAX_OPTION_CODE + 1;
+    private static final long NIBBLE_LOW_BITS = 0x1111111111111111L;
+    static final int MAX_PAIRS = 500;
+
+    private final ClassroomRepository classroomRepository;
+    private final ExamSubmissionRepository submissionRepository;
+    private final ExamAnswerRepository examAnswerRepository;
+
+    @Transactional(readOnly = true)
+    public List<SuspiciousPairDTO> findSuspiciousPairs(Long classroomId, int minIdenticalWrong, int limit) {
+        Classroom classroom = classroomRepository.findById(classroomId)
+                .orElseThrow(() -> new RuntimeException("Classroom not found"));
+
+        // Only the classroom's own option keys get codes: junk keys from clients cannot use up the code space
+        Map<Long, List<String>> optionKeys = new LinkedHashMap<>();
+        classroom.getQuestions().forEach(q -> optionKeys.put(q.getId(),
+                q.getOptions().stream().map(QuestionOption::key).toList()));
+
+        List<Object[]> rows = examAnswerRepository.findAnswerRowsByClassroomIdAndStatus(
+                classroomId, ExamSubmission.SubmissionStatus.COMPLETED);
+
+        AnswerMatrix matrix = AnswerMatrix.encode(rows, optionKeys);
+        List<Candidate> ranked = matrix.rank(minIdenticalWrong, limit);
+
+        Set<Long> submissionIds = new HashSet<>();
+        ranked.forEach(c -> {
+            submissionIds.add(matrix.submissionIds[c.first()]);
+            submissionIds.add(matrix.submissionIds[c.second()]);
+        });
+
+        Map<Long, ExamSubmission> submissions = submissionRepository.findAllWithStudentByIdIn(submissionIds).stream()
+                .collect(Collectors.toMap(ExamSubmission::getId, Function.identity()));
+
+        return ranked.stream().map(c -> {
+            Student first = submissions.get(matrix.submissionIds[c.first()]).getStudent();
+            Student second = submissions.get(matrix.submissionIds[c.second()]).getStudent();
+            return new SuspiciousPairDTO(
+                    first.getFullName(),
+                    first.getEmail(),
+                    second.getFullName(),
+                    second.getEmail(),
+                    c.identicalWrong(),
+                    c.rarityScore(),
+                    c.identical(),
+                    matrix.questionCount
+            );
+        }).collect(Collectors.toList());
+    }
+
+    record Candidate(int first, int second, int identicalWrong, double rarityScore, int identical) {
+        static final Comparator<Candidate> RANKING = Comparator
+                .comparingDouble(Candidate::rarityScore).reversed()
+                .thenComparing(Comparator.comparingInt(Candidate::identicalWrong).reversed())
+                .thenComparing(Comparator.comparingInt(Candidate::identical).reversed());
+    }
+
+    static final class AnswerMatrix {
+        final int size;
+        final int questionCount;
+        final int words;
+        final long[] submissionIds;
+        final int[] wrongCounts;
+        // Flat [submission * words + word] layout keeps each pair comparison on contiguous memory
+        final long[] options;
+        final long[] answered;
+        final long[] wrong;
+        // [question * CODES_PER_QUESTION + code] -> -ln(share of the question's wrong answers that picked it)
+        final double[] rarity;
+
+        private AnswerMatrix(int size, int questionCount) {
+            this.size = size;
+            this.questionCount = questionCount;
+            this.words = (questionCount + QUESTIONS_PER_WORD - 1) / QUESTIONS_PER_WORD;
+            this.submissionIds = new long[size];
+            this.wrongCounts = new int[size];
+            this.options = new long[size * words];
+            this.answered = new long[size * words];
+            this.wrong = new long[size * words];
+            this.rarity = new double[questionCount * CODES_PER_QUESTION];
+        }
+
+        // rows: [submissionId, questionId, selectedOptionKey, isCorrect]; optionKeys: questionId -> option keys in order
+        static AnswerMatrix encode(List<Object[]> rows, Map<Long, List<String>> optionKeys) {
+            // Option keys are compacted per question into codes 1..15; keys past that are left out (compare as "differs")
+            Map<Long, Integer> questionIndex = new HashMap<>();
+            List<Map<String, Integer>> optionCodes = new ArrayList<>();
+            optionKeys.forEach((questionId, keys) -> {
+                questionIndex.put(questionId, optionCodes.size());
+                Map<String, Integer> codes = new HashMap<>();
+                for (int i = 0; i < keys.size() && i < MAX_OPTION_CODE; i++) {
+                    codes.putIfAbsent(normalizeKey(keys.get(i)), i + 1);
+                }
+                optionCodes.add(codes);
+            });
+
+            Map<Long, Integer> wrongBySubmission = new HashMap<>();
+            List<Object[]> encodable = new ArrayList<>();
+            for (Object[] row : rows) {
+                int code = codeOf(row, questionIndex, optionCodes);
+                boolean wrongAnswer = code > 0 && !Boolean.TRUE.equals(row[3]);
+                wrongBySubmission.merge((Long) row[0], wrongAnswer ? 1 : 0, Integer::sum);
+                if (code > 0) encodable.add(row);
+            }
+
+            // Most wrong answers first, so pruning in topPartners() can break early
+            List<Long> order = new ArrayList<>(wrongBySubmission.keySet());
+            order.sort(Comparator.comparing(wrongBySubmission::get, Comparator.reverseOrder()));
+
+            AnswerMatrix matrix = new AnswerMatrix(order.size(), optionCodes.size());
+            Map<Long, Integer> submissionIndex = new HashMap<>();
+            for (int i = 0; i < order.size(); i++) {
+                matrix.submissionIds[i] = order.get(i);
+                matrix.wrongCounts[i] = wrongBySubmission.get(order.get(i));
+                submissionIndex.put(order.get(i), i);
+            }
+
+            int[] wrongPicks = new int[matrix.rarity.length];
+            int[] wrongAnswers = new int[matrix.questionCount];
+            for (Object[] row : encodable) {
+                int s = submissionIndex.get((Long) row[0]);
+                int q = questionIndex.get((Long) row[1]);
+                int code = codeOf(row, questionIndex, optionCodes);
+
+                int word = s * matrix.words + q / QUESTIONS_PER_WORD;
+                int shift = (q % QUESTIONS_PER_WORD) * 4;
+                matrix.options[word] |= (long) code << shift;
+                matrix.answered[word] |= 1L << shift;
+                if (!Boolean.TRUE.equals(row[3])) {
+                    matrix.wrong[word] |= 1L << shift;
+                    wrongPicks[q * CODES_PER_QUESTION + code]++;
+                    wrongAnswers[q]++;
+                }
+            }
+
+            for (int i = 0; i < wrongPicks.length; i++) {
+                if (wrongPicks[i] > 0) {
+                    matrix.rarity[i] = -Math.log((double) wrongPicks[i] / wrongAnswers[i / CODES_PER_QUESTION]);
+                }
+            }
+            return matrix;
+        }
+
+        // Candidates with at least minIdenticalWrong shared wrong answers, rarest first; limit is clamped to MAX_PAIRS
+        List<Candidate> rank(int minIdenticalWrong, int limit) {
+            int threshold = Math.max(1, minIdenticalWrong);
+            int cap = Math.min(Math.max(1, limit), MAX_PAIRS);
+
+            // Rows are sorted by wrong count (desc): identical wrong answers <= min(wrongA, wrongB),
+            // so the inner scan stops as soon as the partner cannot reach the threshold.
+            return IntStream.range(0, size).parallel()
+                    .mapToObj(i -> topPartners(i, threshold, cap))
+                    .flatMap(List::stream)
+                    .sorted(Candidate.RANKING)
+                    .limit(cap)
+                    .collect(Collectors.toList());
+        }
+
+        List<Candidate> topPartners(int i, int threshold, int limit) {
+            if (wrongCounts[i] < threshold) return List.of();
+
+            PriorityQueue<Candidate> best = new PriorityQueue<>(Candidate.RANKING.reversed());
+            int base = i * words;
+            for (int j = i + 1; j < size && wrongCounts[j] >= threshold; j++) {
+                int other = j * words;
+                int identicalWrong = 0;
+                int identical = 0;
+                double rarityScore = 0;
+                for (int w = 0; w < words; w++) {
+                    long x = options[base + w] ^ options[other + w];
+                    // Low bit of each nibble set when the two option codes differ
+                    long differs = (x | x >>> 1 | x >>> 2 | x >>> 3) & NIBBLE_LOW_BITS;
+                    long same = ~differs & NIBBLE_LOW_BITS;
+                    identical += Long.bitCount(same & answered[base + w] & answered[other + w]);
+
+                    long sameWrong = same & wrong[base + w] & wrong[other + w];
+                    identicalWrong += Long.bitCount(sameWrong);
+                    // Shared wrong answers are few, so walk them one by one for their weights
+                    for (long bits = sameWrong; bits != 0; bits &= bits - 1) {
+                        int shift = Long.numberOfTrailingZeros(bits);
+                        int q = w * QUESTIONS_PER_WORD + shift / 4;
+                        int code = (int) (options[base + w] >>> shift) & MAX_OPTION_CODE;
+                        rarityScore += rarity[q * CODES_PER_QUESTION + code];
+                    }
+                }
+
+                if (identicalWrong < threshold) continue;
+                best.add(new Candidate(i, j, identicalWrong, rarityScore, identical));
+                if (best.size() > limit) best.poll();
+            }
+            return new ArrayList<>(best);
+        }
+
+        // 0 when unanswered, for a question outside this classroom, or for a key that is not one of its options
+        private static int codeOf(Object[] row, Map<Long, Integer> questionIndex, List<Map<String, Integer>> optionCodes) {
+            Integer q = questionIndex.get((Long) row[1]);
+            String key = normalizeKey((String) row[2]);
+            if (q == null || key == null) return 0;
+            return optionCodes.get(q).getOrDefault(key, 0);
+        }
+
+        private static String normalizeKey(String key) {
+            if (key == null || key.isBlank()) return null;
+            return key.trim().toUpperCase();
+        }
+    }
+}
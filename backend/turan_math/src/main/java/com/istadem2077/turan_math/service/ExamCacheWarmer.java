@@ -0,0 +1,36 @@
+package com.istadem2077.turan_math.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Preloads access codes and active classrooms before the node reports ready: runners complete before the readiness
+ * state switches to ACCEPTING_TRAFFIC, so scale-out nodes do not serve the first exam wave from a cold cache.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExamCacheWarmer implements ApplicationRunner {
+    private final AccessCodeService accessCodeService;
+    private final ExamContentCache examContentCache;
+    private final Environment environment;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // Always loaded: unknown codes are only answered without the DB once the filter is in place
+        long start = System.nanoTime();
+        accessCodeService.refreshKnownCodes();
+        log.info("Loaded access codes in {} ms", (System.nanoTime() - start) / 1_000_000);
+
+        // Read at run time, not as a bean condition: AOT builds freeze conditions at package time
+        if (!environment.getProperty("turan.startup.prewarm-exams", Boolean.class, true)) return;
+
+        start = System.nanoTime();
+        int classrooms = examContentCache.warmActiveClassrooms();
+        log.info("Pre-warmed {} active classrooms in {} ms", classrooms, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,99 @@
+package com.istadem2077.turan_math.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.istadem2077.turan_math.config.Workload;
+import com.istadem2077.turan_math.config.WorkloadPool;
+import com.istadem2077.turan_math.dto.ExamDTOs.*;
+import com.istadem2077.turan_math.entity.*;
+import com.istadem2077.turan_math.repository.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * In-memory question payloads and rosters for the exam start path, keyed by classroom ID.
+ * Filled lazily on first start, or for all active classrooms at boot by ExamCacheWarmer.
+ * Bounded and dropped after a few idle hours; rosters are re-read in the background every minute so
+ * removals show up without any per-request reload. A student missing from the cached roster is checked with
+ * one ID-only query before being rejected, so late registrations are never turned away.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExamContentCache {
+    private static final int MAX_CLASSROOMS = 1_000;
+    private static final Duration IDLE_EXPIRY = Duration.ofHours(3);
+    private static final Duration ROSTER_REFRESH = Duration.ofMinutes(1);
+
+    private final ClassroomRepository classroomRepository;
+    private final RosterLoader rosterLoader;
+    private final BookletService bookletService;
+
+    private final Cache<Long, List<QuestionDTO>> questions = Caffeine.newBuilder()
+            .maximumSize(MAX_CLASSROOMS)
+            .expireAfterAccess(IDLE_EXPIRY)
+            .build();
+
+    // Stale rosters are served while the refresh runs, so a roster is never reloaded on the caller's thread
+    private final LoadingCache<Long, Set<Long>> rosters = Caffeine.newBuilder()
+            .maximumSize(MAX_CLASSROOMS)
+            .expireAfterAccess(IDLE_EXPIRY)
+            .refreshAfterWrite(ROSTER_REFRESH)
+            .build(this::loadRoster);
+
+    // Canonical question order; callers shuffle their own copy
+    public List<QuestionDTO> questionsFor(Classroom classroom) {
+        return questions.get(classroom.getId(), id -> classroom.getQuestions().stream()
+                .map(q -> new QuestionDTO(q.getId(), q.getContent(), List.<Object>copyOf(q.getOptions())))
+                .toList());
+    }
+
+    public boolean isRegistered(Classroom classroom, Long studentId) {
+        if (rosters.get(classroom.getId()).contains(studentId)) return true;
+
+        // The cached roster may predate the registration: confirm with the DB, and cache only a "yes"
+        if (!rosterLoader.isMember(classroom.getId(), studentId)) return false;
+        rosters.asMap().computeIfPresent(classroom.getId(), (id, roster) -> {
+            Set<Long> updated = new HashSet<>(roster);
+            updated.add(studentId);
+            return Set.copyOf(updated);
+        });
+        return true;
+    }
+
+    // Call when a classroom stops being servable (e.g. deactivated)
+    public void evict(Long classroomId) {
+        questions.invalidate(classroomId);
+        rosters.invalidate(classroomId);
+        bookletService.evict(classroomId);
+    }
+
+    @Transactional(readOnly = true)
+    @WorkloadPool(Workload.STUDENT)
+    public int warmActiveClassrooms() {
+        List<Classroom> active = classroomRepository.findActiveWithQuestions();
+
+        Map<Long, Set<Long>> activeRosters = new HashMap<>();
+        active.forEach(classroom -> activeRosters.put(classroom.getId(), new HashSet<>()));
+        classroomRepository.findActiveRosterRows().forEach(row ->
+                activeRosters.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((Long) row[1]));
+
+        active.forEach(classroom -> {
+            questionsFor(classroom);
+            rosters.put(classroom.getId(), Set.copyOf(activeRosters.get(classroom.getId())));
+            if (bookletService.hasBooklets(classroom)) {
+                bookletService.preload(classroom);
+            }
+        });
+        return active.size();
+    }
+
+    // Through RosterLoader so background refreshes run on the student pool
+    private Set<Long> loadRoster(Long classroomId) {
+        return rosterLoader.load(classroomId);
+    }
+}
@@ -1,5 +1,7 @@
 package com.istadem2077.turan_math.service;
 
+import com.istadem2077.turan_math.config.Workload;
+import com.istadem2077.turan_math.config.WorkloadPool;
 import com.istadem2077.turan_math.dto.ExamDTOs.*;
 
 import com.istadem2077.turan_math.entity.*;
@@ -21,25 +23,28 @@ public class ExamService {
     private final ExamSubmissionRepository submissionRepository;
     private final QuestionRepository questionRepository;
     private final ExamAnswerRepository examAnswerRepository;
+    private final BookletService bookletService;
+    private final ExamContentCache examContentCache;
+    private final AccessCodeService accessCodeService;
 
     @Transactional
+    @WorkloadPool(Workload.STUDENT)
     public ExamStartResponse startExam(String accessCode, String studentEmail) {
-        // 1. Find Classroom (Performance fix: Ensure questions are fetched eagerly if needed)
-        // Using standard findByAccessCode. If Lazy loading causes issues, use "JOIN FETCH" query in Repo.
-        Classroom classroom = classroomRepository.findByAccessCode(accessCode)
+        // 1. Find Classroom: code -> ID comes from the access-code cache (unknown codes are negatively cached)
+        Long classroomId = accessCodeService.resolveClassroomId(accessCode)
+                .orElseThrow(() -> new RuntimeException("Invalid Code"));
+        Classroom classroom = classroomRepository.findById(classroomId)
                 .orElseThrow(() -> new RuntimeException("Invalid Code"));
 
         if (!Boolean.TRUE.equals(classroom.getIsActive())) {
+            examContentCache.evict(classroom.getId());
             throw new RuntimeException("This exam is not currently active.");
         }
 
         Student student = studentRepository.findByEmail(studentEmail)
                 .orElseThrow(() -> new RuntimeException("Student not registered"));
 
-        boolean isRegistered = classroom.getRegisteredStudents().stream()
-                .anyMatch(s -> s.getId().equals(student.getId()));
-
-        if (!isRegistered) {
+        if (!examContentCache.isRegistered(classroom, student.getId())) {
             throw new RuntimeException("You are not registered for this classroom.");
         }
 
@@ -60,14 +65,14 @@ public class ExamService {
             throw new RuntimeException("You have already completed this exam.");
         }
 
-        // 3. Shuffle Questions
-        List<Question> questions = new ArrayList<>(classroom.getQuestions());
-        Collections.shuffle(questions);
-
-        // 4. Map to DTO
-        List<QuestionDTO> questionDTOs = questions.stream().map(q ->
-                new QuestionDTO(q.getId(), q.getContent(), (List) q.getOptions())
-        ).collect(Collectors.toList());
+        // 3. Serve the student's precomputed booklet, or shuffle per student when the classroom has none
+        List<QuestionDTO> questionDTOs;
+        if (bookletService.hasBooklets(classroom)) {
+            questionDTOs = bookletService.payloadFor(classroom, student.getId());
+        } else {
+            questionDTOs = new ArrayList<>(examContentCache.questionsFor(classroom));
+            Collections.shuffle(questionDTOs);
+        }
 
         return new ExamStartResponse(
                 classroom.getId(),
@@ -79,6 +84,7 @@ public class ExamService {
     }
 
     @Transactional
+    @WorkloadPool(Workload.STUDENT)
     public ScoreDTO submitExam(SubmitExamRequest request) {
         ExamSubmission submission = submissionRepository.findById(request.submissionId())
                 .orElseThrow(() -> new RuntimeException("Submission not found"));
@@ -110,6 +116,10 @@ public class ExamService {
                 .stream()
                 .collect(Collectors.toMap(Question::getId, Function.identity()));
 
+        Classroom classroom = submission.getClassroom();
+        boolean hasBooklets = bookletService.hasBooklets(classroom);
+        Long studentId = submission.getStudent().getId();
+
         int totalScore = 0;
         List<ExamAnswer> answerLog = new ArrayList<>();
 
@@ -122,18 +132,23 @@ public class ExamService {
             Question question = questionMap.get(answerDTO.questionId());
             if (question == null) continue;
 
+            // Booklet keys are relabeled per variant: grade and store the canonical key
+            String selectedKey = hasBooklets
+                    ? bookletService.toCanonicalKey(classroom, studentId, question.getId(), answerDTO.selectedKey())
+                    : answerDTO.selectedKey();
+
             // Simple Key comparison (A == A)
             // Note: DB correct key is Integer in your Entity, make sure types match!
             // If DB is String "A", Entity should be String.
             // Your DDL said VARCHAR, but Entity said Integer. Assuming String for now.
-            boolean isCorrect = question.getCorrectOptionKey().trim().equalsIgnoreCase(answerDTO.selectedKey().trim());
+            boolean isCorrect = question.getCorrectOptionKey().trim().equalsIgnoreCase(selectedKey.trim());
 
             if (isCorrect) totalScore++;
 
             ExamAnswer examAnswer = ExamAnswer.builder()
                     .submission(submission)
                     .question(question)
-                    .selectedOptionKey(answerDTO.selectedKey())
+                    .selectedOptionKey(selectedKey)
                     .isCorrect(isCorrect)
                     .build();
 
@@ -154,7 +169,8 @@ public class ExamService {
         );
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
+    @WorkloadPool(value = Workload.TEACHER, readOnly = true)
     public List<StudentResultResponse> getClassroomResults(Long classroomId) {
         // 1. Fetch all submissions for the classroom
         // You might need to add 'List<ExamSubmission> findByClassroomId(Long id)' to ExamSubmissionRepository
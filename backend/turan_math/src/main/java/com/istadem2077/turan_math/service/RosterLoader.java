@@ -0,0 +1,32 @@
+package com.istadem2077.turan_math.service;
+
+import com.istadem2077.turan_math.config.Workload;
+import com.istadem2077.turan_math.config.WorkloadPool;
+import com.istadem2077.turan_math.repository.ClassroomRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+
+/**
+ * Roster reads for ExamContentCache. A separate bean so the @WorkloadPool advice also applies when Caffeine
+ * refreshes a roster on its own thread, where no caller has bound a workload.
+ */
+@Component
+@RequiredArgsConstructor
+@WorkloadPool(Workload.STUDENT)
+public class RosterLoader {
+    private final ClassroomRepository classroomRepository;
+
+    @Transactional(readOnly = true)
+    public Set<Long> load(Long classroomId) {
+        return Set.copyOf(classroomRepository.findRegisteredStudentIds(classroomId));
+    }
+
+    // ID-only membership check for students registered after the roster was loaded
+    @Transactional(readOnly = true)
+    public boolean isMember(Long classroomId, Long studentId) {
+        return classroomRepository.existsByIdAndRegisteredStudentsId(classroomId, studentId);
+    }
+}
@@ -0,0 +1,197 @@
+package com.istadem2077.turan_math.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.*;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Real JPA + @Transactional stack over three in-memory H2 pools that record which one handed out a connection
+@SpringJUnitConfig(WorkloadRoutingTests.Config.class)
+class WorkloadRoutingTests {
+    private static final List<String> CONNECTIONS = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private RoutedQueries queries;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void clearRecordedConnections() {
+        CONNECTIONS.clear();
+    }
+
+    @Test
+    void routesTransactionsToTheAnnotatedPool() {
+        queries.student();
+        queries.reporting();
+        queries.unannotated();
+        queries.teacherClass();
+
+        assertThat(CONNECTIONS).containsExactly("student", "replica", "teacher", "teacher");
+    }
+
+    @Test
+    void routesEachTransactionWithOpenEntityManagerInView() {
+        OpenEntityManagerInViewInterceptor openInView = new OpenEntityManagerInViewInterceptor();
+        openInView.setEntityManagerFactory(entityManagerFactory);
+        ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest());
+
+        openInView.preHandle(request);
+        try {
+            // One request, one EntityManager: each transaction must still pick up its own pool
+            queries.student();
+            queries.reporting();
+            queries.unannotated();
+        } finally {
+            openInView.afterCompletion(request, null);
+        }
+
+        assertThat(CONNECTIONS).containsExactly("student", "replica", "teacher");
+    }
+
+    @Test
+    void readOnlyFallsBackToTeacherPoolWithoutReplica() throws SQLException {
+        WorkloadRoutingDataSource routing = DataSourceConfig.routingDataSource(
+                recording("student"), recording("teacher"), null);
+        routing.afterPropertiesSet();
+
+        WorkloadPool previous = WorkloadRoutingDataSource.bind(readOnlyTeacher());
+        try (Connection ignored = routing.getConnection()) {
+            assertThat(CONNECTIONS).containsExactly("teacher");
+        } finally {
+            WorkloadRoutingDataSource.restore(previous);
+        }
+    }
+
+    private static WorkloadPool readOnlyTeacher() {
+        try {
+            return RoutedQueries.class.getMethod("reporting").getAnnotation(WorkloadPool.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static DataSource recording(String name) {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return new DelegatingDataSource(h2) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                CONNECTIONS.add(name);
+                return super.getConnection();
+            }
+        };
+    }
+
+    static class RoutedQueries {
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        @Autowired
+        private TeacherQueries teacherQueries;
+
+        @Transactional
+        @WorkloadPool(Workload.STUDENT)
+        public void student() {
+            query();
+        }
+
+        @Transactional(readOnly = true)
+        @WorkloadPool(value = Workload.TEACHER, readOnly = true)
+        public void reporting() {
+            query();
+        }
+
+        @Transactional
+        public void unannotated() {
+            query();
+        }
+
+        // Class-level @WorkloadPool on the callee
+        public void teacherClass() {
+            teacherQueries.run();
+        }
+
+        private void query() {
+            entityManager.createNativeQuery("SELECT 1").getSingleResult();
+        }
+    }
+
+    @WorkloadPool(Workload.TEACHER)
+    static class TeacherQueries {
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        @Transactional
+        public void run() {
+            entityManager.createNativeQuery("SELECT 1").getSingleResult();
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement(proxyTargetClass = true)
+    static class Config {
+        @Bean
+        @Primary
+        DataSource dataSource() {
+            return DataSourceConfig.routingDataSource(recording("student"), recording("teacher"), recording("replica"));
+        }
+
+        @Bean
+        LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+            LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+            factory.setDataSource(dataSource);
+            factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            factory.setPackagesToScan("com.istadem2077.turan_math.config");
+            DataSourceConfig.releaseConnectionAfterTransaction().customize(factory.getJpaPropertyMap());
+            return factory;
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+
+        @Bean
+        @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+        static Advisor workloadPoolAdvisor() {
+            return DataSourceConfig.workloadPoolAdvisor();
+        }
+
+        @Bean
+        RoutedQueries routedQueries() {
+            return new RoutedQueries();
+        }
+
+        @Bean
+        TeacherQueries teacherQueries() {
+            return new TeacherQueries();
+        }
+    }
+}
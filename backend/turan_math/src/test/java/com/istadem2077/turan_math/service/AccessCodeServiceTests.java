@@ -0,0 +1,127 @@
+package com.istadem2077.turan_math.service;
+
+import com.istadem2077.turan_math.repository.ClassroomRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AccessCodeServiceTests {
+    // The classrooms table as other nodes see it: id -> access code
+    private final NavigableMap<Long, String> classrooms = new TreeMap<>();
+    // Codes that exist in the DB but were not visible to the last scan (e.g. created on another node just now)
+    private final Set<String> createdElsewhere = new HashSet<>();
+    private final Deque<String> scriptedCodes = new ArrayDeque<>();
+    private int generated = 0;
+
+    private final ClassroomRepository repository = mock(ClassroomRepository.class);
+    private final AccessCodeService service = new AccessCodeService(repository) {
+        @Override
+        String randomCode() {
+            return scriptedCodes.isEmpty() ? String.format("G%05d", ++generated) : scriptedCodes.poll();
+        }
+    };
+
+    AccessCodeServiceTests() {
+        when(repository.findAccessCodesAfter(anyLong())).thenAnswer(inv -> classrooms
+                .tailMap(inv.getArgument(0, Long.class), false).entrySet().stream()
+                .map(e -> new Object[]{e.getKey(), e.getValue()})
+                .toList());
+        when(repository.existsByAccessCode(anyString())).thenAnswer(inv ->
+                classrooms.containsValue(inv.<String>getArgument(0)) || createdElsewhere.contains(inv.<String>getArgument(0)));
+        when(repository.findIdByAccessCode(anyString())).thenAnswer(inv -> classrooms.entrySet().stream()
+                .filter(e -> e.getValue().equals(inv.getArgument(0)))
+                .map(Map.Entry::getKey)
+                .findFirst());
+    }
+
+    @Test
+    void allocationSkipsKnownAndTakenCodes() {
+        classrooms.put(1L, "KNOWN2");
+        createdElsewhere.add("TAKEN3");
+        scriptedCodes.addAll(List.of("KNOWN2", "TAKEN3", "FRESH4", "KNOWN2", "FRESH4"));
+
+        List<String> allocated = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            allocated.add(service.allocate());
+        }
+
+        assertThat(allocated.get(0)).isEqualTo("FRESH4");
+        assertThat(allocated).doesNotContain("KNOWN2", "TAKEN3").doesNotHaveDuplicates();
+    }
+
+    @Test
+    void allocateClearsNegativelyCachedCode() {
+        service.refreshKnownCodes();
+        assertThat(service.allocate()).isEqualTo("G00001");
+
+        // G00002 is reserved (so the filter says "maybe") but not in the DB yet: cached as unknown
+        assertThat(service.resolveClassroomId("G00002")).isEmpty();
+        assertThat(service.resolveClassroomId("G00002")).isEmpty();
+        verify(repository, times(1)).findIdByAccessCode("G00002");
+
+        assertThat(service.allocate()).isEqualTo("G00002");
+        classrooms.put(2L, "G00002");
+
+        assertThat(service.resolveClassroomId("g00002")).contains(2L);
+    }
+
+    @Test
+    void refreshPicksUpCodesFromOtherNodesIncludingLateCommits() {
+        for (long id = 1; id <= 300; id++) {
+            if (id != 250) classrooms.put(id, String.format("C%05d", id));
+        }
+        service.refreshKnownCodes();
+
+        classrooms.put(301L, "N00301");
+        assertThat(service.resolveClassroomId("N00301")).contains(301L);
+
+        // ID 250 commits after 301 was scanned: found only because recent IDs are re-read
+        classrooms.put(250L, "L00250");
+        assertThat(service.resolveClassroomId("L00250")).contains(250L);
+        verify(repository).findAccessCodesAfter(301L - AccessCodeService.KNOWN_CODES_ID_OVERLAP);
+    }
+
+    @Test
+    void malformedAndUnknownCodesSkipPerCodeQueries() {
+        classrooms.put(1L, "KNOWN2");
+        service.refreshKnownCodes();
+
+        for (String code : Arrays.asList(null, "", "abc", "ABC-12", "TOOLONG1", "ZZZZZ9", "ZZZZZ9", "Q7Q7Q7")) {
+            assertThat(service.resolveClassroomId(code)).isEmpty();
+        }
+        assertThat(service.resolveClassroomId(" known2 ")).contains(1L);
+
+        verify(repository, never()).findIdByAccessCode(argThat(code -> !code.equals("KNOWN2")));
+    }
+
+    @Test
+    void lookupFallsBackToDatabaseWhileLockIsBusy() throws Exception {
+        service.refreshKnownCodes();
+
+        // Hold the lock inside allocate() until the lookup is done
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.existsByAccessCode(anyString())).thenAnswer(inv -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return false;
+        });
+        CompletableFuture<String> allocation = CompletableFuture.supplyAsync(service::allocate);
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        classrooms.put(7L, "OTHER7");
+        try {
+            assertThat(service.resolveClassroomId("OTHER7")).contains(7L);
+        } finally {
+            release.countDown();
+        }
+        assertThat(allocation.get(5, TimeUnit.SECONDS)).isEqualTo("G00001");
+    }
+}
@@ -0,0 +1,87 @@
+package com.istadem2077.turan_math.service;
+
+import com.istadem2077.turan_math.dto.ExamDTOs.QuestionDTO;
+import com.istadem2077.turan_math.entity.*;
+import com.istadem2077.turan_math.model.json.QuestionOption;
+import com.istadem2077.turan_math.repository.ClassroomBookletRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BookletServiceTests {
+    private static final int VARIANTS = 4;
+    private static final int STUDENTS = 200;
+
+    private final List<ClassroomBooklet> stored = new ArrayList<>();
+    private final ClassroomBookletRepository repository = mock(ClassroomBookletRepository.class);
+    private final BookletService service = new BookletService(repository);
+
+    private final Classroom classroom = Classroom.builder().id(7L).bookletCount(VARIANTS).build();
+    private final List<Question> questions = new ArrayList<>();
+
+    BookletServiceTests() {
+        when(repository.saveAll(anyList())).thenAnswer(inv -> {
+            stored.addAll(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+        when(repository.findByClassroomIdOrderByVariant(7L)).thenAnswer(inv -> List.copyOf(stored));
+
+        for (long q = 1; q <= 10; q++) {
+            List<QuestionOption> options = new ArrayList<>();
+            for (String key : List.of("A", "B", "C", "D", "E")) {
+                options.add(new QuestionOption(key, "q" + q + "-" + key)); // text identifies the original option
+            }
+            questions.add(Question.builder().id(q).content("Question " + q).options(options).correctOptionKey("A").build());
+        }
+        service.createBooklets(classroom, questions);
+    }
+
+    @Test
+    void everyShownLabelMapsBackToTheOptionItLabels() {
+        Set<List<QuestionDTO>> variantsSeen = new HashSet<>();
+        for (long student = 1; student <= STUDENTS; student++) {
+            List<QuestionDTO> payload = service.payloadFor(classroom, student);
+            variantsSeen.add(payload);
+
+            for (QuestionDTO question : payload) {
+                for (Object shown : question.options()) {
+                    QuestionOption option = (QuestionOption) shown;
+                    String canonical = service.toCanonicalKey(classroom, student, question.id(), option.key());
+                    assertThat(option.text()).isEqualTo("q" + question.id() + "-" + canonical);
+                }
+            }
+        }
+        assertThat(variantsSeen).hasSize(VARIANTS);
+    }
+
+    @Test
+    void studentGetsTheSameVariantAtStartAndSubmit() {
+        Map<Long, List<QuestionDTO>> atStart = new HashMap<>();
+        for (long student = 1; student <= STUDENTS; student++) {
+            atStart.put(student, service.payloadFor(classroom, student));
+        }
+
+        // Submit may land on another node (or after eviction): the variant comes from the IDs, not the cache
+        service.evict(classroom.getId());
+        for (long student = 1; student <= STUDENTS; student++) {
+            assertThat(service.payloadFor(classroom, student)).isEqualTo(atStart.get(student));
+        }
+    }
+
+    @Test
+    void handlesLowerCaseUnknownAndMissingKeys() {
+        long student = 3;
+        QuestionDTO first = service.payloadFor(classroom, student).get(0);
+        String label = ((QuestionOption) first.options().get(1)).key();
+        String canonical = service.toCanonicalKey(classroom, student, first.id(), label);
+
+        assertThat(service.toCanonicalKey(classroom, student, first.id(), " " + label.toLowerCase() + " ")).isEqualTo(canonical);
+        assertThat(service.toCanonicalKey(classroom, student, first.id(), "Z")).isEqualTo("Z");
+        assertThat(service.toCanonicalKey(classroom, student, 999L, label)).isEqualTo(label);
+        assertThat(service.toCanonicalKey(classroom, student, first.id(), null)).isNull();
+    }
+}
@@ -0,0 +1,139 @@
+package com.istadem2077.turan_math.service;
+
+import com.istadem2077.turan_math.service.CollusionService.AnswerMatrix;
+import com.istadem2077.turan_math.service.CollusionService.Candidate;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class CollusionServiceTests {
+    private static final int QUESTIONS = 20; // two packed words per submission
+    private static final String CORRECT = "A";
+
+    private final Map<Long, List<String>> optionKeys = new LinkedHashMap<>();
+    private final List<Object[]> rows = new ArrayList<>();
+
+    CollusionServiceTests() {
+        for (long q = 1; q <= QUESTIONS; q++) {
+            optionKeys.put(q, List.of("A", "B", "C", "D"));
+        }
+    }
+
+    @Test
+    void countsIdenticalAnswersAcrossBothWords() {
+        // Same wrong "B" on q2 (word 0) and q18 (word 1), both correct on q5, different wrong answers on q10
+        answer(1, 2, "B"); answer(1, 18, "B"); answer(1, 5, CORRECT); answer(1, 10, "C");
+        answer(2, 2, "B"); answer(2, 18, "B"); answer(2, 5, CORRECT); answer(2, 10, "D");
+
+        Candidate pair = rank(1).get(0);
+
+        assertThat(pair.identicalWrong()).isEqualTo(2);
+        assertThat(pair.identical()).isEqualTo(3);
+    }
+
+    @Test
+    void unansweredQuestionsAreNeverIdentical() {
+        answer(1, 1, "B"); answer(1, 3, null); answer(1, 4, " ");
+        answer(2, 1, "B"); answer(2, 3, null); answer(2, 4, "");
+
+        Candidate pair = rank(1).get(0);
+
+        assertThat(pair.identicalWrong()).isEqualTo(1);
+        assertThat(pair.identical()).isEqualTo(1);
+    }
+
+    @Test
+    void keysOutsideTheQuestionOptionsAreIgnored() {
+        // Junk keys must not count as identical answers, even when both students send the same one
+        answer(1, 1, "B"); answer(1, 2, "ZZ"); answer(1, 3, "Q");
+        answer(2, 1, "B"); answer(2, 2, "ZZ"); answer(2, 3, "Q");
+
+        Candidate pair = rank(1).get(0);
+
+        assertThat(pair.identicalWrong()).isEqualTo(1);
+        assertThat(pair.identical()).isEqualTo(1);
+    }
+
+    @Test
+    void prunesPairsBelowThresholdAndBreaksRarityTiesByIdenticalWrong() {
+        // 1 and 2 share 3 wrong answers, 1 and 3 share 2 (+1 correct), 4 has fewer wrong answers than the threshold
+        wrongAnswers(1, "B", 1, 2, 3, 17);
+        wrongAnswers(2, "B", 1, 2, 3);
+        wrongAnswers(3, "B", 1, 2);
+        wrongAnswers(3, "C", 3);
+        answer(3, 17, CORRECT);
+        wrongAnswers(4, "B", 1);
+
+        AnswerMatrix matrix = AnswerMatrix.encode(rows, optionKeys);
+
+        List<Candidate> atThree = matrix.rank(3, 10);
+        assertThat(atThree).hasSize(1);
+        assertThat(submissionPair(matrix, atThree.get(0))).containsExactlyInAnyOrder(1L, 2L);
+
+        // q1 and q2 "B" were every wrong answer, so only q3 "B" (2 of 3 wrong answers) adds to the score
+        List<Candidate> atTwo = matrix.rank(2, 10);
+        assertThat(atTwo.get(0).rarityScore()).isCloseTo(Math.log(1.5), within(1e-9));
+        assertThat(atTwo).extracting(Candidate::identicalWrong).containsExactly(3, 2, 2);
+        assertThat(atTwo).noneMatch(c -> submissionPair(matrix, c).contains(4L));
+    }
+
+    @Test
+    void rareIdenticalWrongAnswersOutrankPopularDistractors() {
+        // 20 weak students independently fall for the popular "B" on q1..q12, miss one of q13..q16 with "C",
+        // and get the rest right
+        for (long student = 10; student < 30; student++) {
+            wrongAnswers(student, "B", 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12);
+            for (long q = 13; q <= 20; q++) {
+                answer(student, q, q == 13 + student % 4 ? "C" : CORRECT);
+            }
+        }
+        // A copying pair: right on the easy questions, same rare "D" on q13..q16
+        for (long student = 1; student <= 2; student++) {
+            wrongAnswers(student, CORRECT, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 17, 18, 19, 20);
+            wrongAnswers(student, "D", 13, 14, 15, 16);
+        }
+
+        AnswerMatrix matrix = AnswerMatrix.encode(rows, optionKeys);
+        List<Candidate> ranked = matrix.rank(3, 10);
+
+        assertThat(submissionPair(matrix, ranked.get(0))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ranked.get(0).identicalWrong()).isEqualTo(4);
+        assertThat(ranked.get(1).identicalWrong()).isGreaterThanOrEqualTo(12);
+        assertThat(ranked.get(0).rarityScore()).isGreaterThan(ranked.get(1).rarityScore());
+    }
+
+    @Test
+    void clampsLimit() {
+        for (long student = 1; student <= 40; student++) {
+            wrongAnswers(student, "B", 1, 2);
+        }
+
+        assertThat(rank(1, Integer.MAX_VALUE)).hasSize(CollusionService.MAX_PAIRS);
+        assertThat(rank(1, 0)).hasSize(1);
+    }
+
+    private List<Candidate> rank(int minIdenticalWrong) {
+        return rank(minIdenticalWrong, 10);
+    }
+
+    private List<Candidate> rank(int minIdenticalWrong, int limit) {
+        return AnswerMatrix.encode(rows, optionKeys).rank(minIdenticalWrong, limit);
+    }
+
+    private void wrongAnswers(long submissionId, String key, long... questionIds) {
+        for (long questionId : questionIds) {
+            answer(submissionId, questionId, key);
+        }
+    }
+
+    private void answer(long submissionId, long questionId, String key) {
+        rows.add(new Object[]{submissionId, questionId, key, CORRECT.equals(key)});
+    }
+
+    private static Set<Long> submissionPair(AnswerMatrix matrix, Candidate candidate) {
+        return Set.of(matrix.submissionIds[candidate.first()], matrix.submissionIds[candidate.second()]);
+    }
+}